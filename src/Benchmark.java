@@ -0,0 +1,257 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class Benchmark {
+    // Runs the master and 1..N workers as local processes on a synthetic corpus,
+    // repeats every configuration and reports per-phase times, speedup and efficiency.
+    // Each run gets its own ports (see Config.loadWorkers) and its own directory.
+    private static final String[] PHASES = {"map", "reduce", "redistribution", "final_result", "total"};
+
+    private final Map<String, String> options;
+    private final Path outDir;
+    private final int maxWorkers;
+    private final int trials;
+    private final long timeoutMillis;
+    private final List<String> corpus = new ArrayList<>();
+    private int nextPort;
+
+    public Benchmark(Map<String, String> options) {
+        this.options = options;
+        this.outDir = Path.of(options.get("out"));
+        this.maxWorkers = Integer.parseInt(options.get("workers"));
+        this.trials = Integer.parseInt(options.get("trials"));
+        this.timeoutMillis = Long.parseLong(options.get("timeout")) * 1000;
+        this.nextPort = Integer.parseInt(options.get("basePort"));
+    }
+
+    public void run() throws IOException, InterruptedException {
+        Files.createDirectories(outDir);
+        generateCorpus();
+        List<Map<String, Long>> results = new ArrayList<>();
+        for (int n = 1; n <= maxWorkers; n++) {
+            for (int t = 1; t <= trials; t++) {
+                Map<String, Long> metrics = runTrial(n, t);
+                if (metrics == null) {
+                    Config.consoleOutput(Config.outType.ERR, "Run with " + n + " workers, trial " + t + " timed out.");
+                    continue;
+                }
+                metrics.put("trial", (long) t);
+                results.add(metrics);
+                Config.consoleOutput(Config.outType.INFO, "Workers " + n + ", trial " + t + ": " + metrics);
+            }
+        }
+        writeCsv(results);
+        writeJson(results, summarize(results));
+    }
+
+    private void generateCorpus() throws IOException {
+        int files = Integer.parseInt(options.get("files"));
+        long words = Long.parseLong(options.get("words"));
+        int vocabulary = Integer.parseInt(options.get("vocab"));
+        double skew = Double.parseDouble(options.get("skew"));
+        long seed = Long.parseLong(options.get("seed"));
+        for (int i = 0; i < files; i++) {
+            Path file = outDir.resolve("corpus_" + i + ".txt").toAbsolutePath();
+            // Words are spread over the files, the remainder goes to the last one
+            long fileWords = words / files + (i == files - 1 ? words % files : 0);
+            new CorpusGenerator(vocabulary, skew, seed + i).write(file, fileWords);
+            corpus.add(file.toString());
+        }
+        Config.consoleOutput(Config.outType.INFO, "Generated " + words + " words in " + files + " file(s).");
+    }
+
+    private Map<String, Long> runTrial(int workers, int trial) throws IOException, InterruptedException {
+        Path dir = outDir.resolve("run_" + workers + "w_t" + trial);
+        Files.createDirectories(dir);
+        Path metricsFile = dir.resolve("metrics.txt").toAbsolutePath();
+        Files.deleteIfExists(metricsFile);
+
+        int masterPort = nextPort;
+        nextPort += workers + 1;
+        List<String> jvm = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Dmr.masterPort=" + masterPort,
+                "-Dmr.workers=" + workers,
+                "-Dmr.basePort=" + (masterPort + 1));
+
+        List<Process> processes = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            for (int i = 0; i < workers; i++) {
+                List<String> cmd = new ArrayList<>(jvm);
+                cmd.addAll(List.of("WorkerNode", String.valueOf(i)));
+                processes.add(launch(cmd, dir, "worker" + i + ".log"));
+            }
+            // Start the clock only once every worker listens
+            for (int i = 0; i < workers; i++) {
+                if (!waitForPort(masterPort + 1 + i, deadline))
+                    return null;
+            }
+            List<String> cmd = new ArrayList<>(jvm);
+            cmd.add("-Dmr.metrics=" + metricsFile);
+            cmd.add("MainMaster");
+            cmd.addAll(corpus);
+            processes.add(launch(cmd, dir, "master.log"));
+
+            while (!Files.exists(metricsFile)) {
+                if (System.currentTimeMillis() > deadline)
+                    return null;
+                Thread.sleep(100);
+            }
+            return readMetrics(metricsFile);
+        } finally {
+            // Nodes never exit on their own
+            for (Process p : processes)
+                p.destroyForcibly();
+            for (Process p : processes)
+                p.waitFor();
+        }
+    }
+
+    private static Process launch(List<String> cmd, Path dir, String log) throws IOException {
+        return new ProcessBuilder(cmd)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve(log).toFile())
+                .start();
+    }
+
+    private static boolean waitForPort(int port, long deadline) throws InterruptedException {
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                // Closed right away, the node ignores connections without a stream header
+                new Socket("localhost", port).close();
+                return true;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Long> readMetrics(Path file) throws IOException {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            String[] kv = line.split("=");
+            if (kv.length == 2)
+                metrics.put(kv[0], Long.parseLong(kv[1]));
+        }
+        return metrics;
+    }
+
+    private static double median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int mid = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(mid) : (sorted.get(mid - 1) + sorted.get(mid)) / 2.0;
+    }
+
+    // Median of every metric per worker count, plus speedup and efficiency relative to 1 worker.
+    // The Karp-Flatt metric estimates the serial fraction of Amdahl's law from each measured speedup:
+    // a value that stays flat points at serial work, a growing one at parallel overhead.
+    private List<Map<String, Double>> summarize(List<Map<String, Long>> results) {
+        List<Map<String, Double>> summary = new ArrayList<>();
+        Double baseline = null;
+        for (int n = 1; n <= maxWorkers; n++) {
+            final int workers = n;
+            List<Map<String, Long>> runs = results.stream().filter(r -> r.get("workers") == workers).toList();
+            if (runs.isEmpty())
+                continue;
+            Map<String, Double> row = new LinkedHashMap<>();
+            row.put("workers", (double) n);
+            row.put("trials", (double) runs.size());
+            for (String phase : PHASES)
+                row.put(phase, median(runs.stream().map(r -> r.get(phase)).toList()));
+            row.put("shuffled_bytes", median(runs.stream().map(r -> r.get("shuffled_bytes")).toList()));
+            if (n == 1)
+                baseline = row.get("total");
+            if (baseline != null) {
+                double speedup = baseline / row.get("total");
+                row.put("speedup", speedup);
+                row.put("efficiency", speedup / n);
+                if (n > 1)
+                    row.put("serial_fraction", (1 / speedup - 1.0 / n) / (1 - 1.0 / n));
+            }
+            summary.add(row);
+            Config.consoleOutput(Config.outType.INFO, "Summary: " + row);
+        }
+        return summary;
+    }
+
+    private void writeCsv(List<Map<String, Long>> results) throws IOException {
+        Path file = outDir.resolve("results.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("workers,trial," + String.join(",", PHASES) + ",shuffled_bytes");
+            writer.newLine();
+            for (Map<String, Long> r : results) {
+                StringBuilder line = new StringBuilder().append(r.get("workers")).append(',').append(r.get("trial"));
+                for (String phase : PHASES)
+                    line.append(',').append(r.get(phase));
+                line.append(',').append(r.get("shuffled_bytes"));
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+        Config.consoleOutput(Config.outType.INFO, "Per-trial results written to " + file);
+    }
+
+    private void writeJson(List<Map<String, Long>> results, List<Map<String, Double>> summary) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"config\": {");
+        StringJoiner config = new StringJoiner(", ");
+        for (Map.Entry<String, String> option : options.entrySet())
+            config.add("\"" + option.getKey() + "\": \"" + option.getValue() + "\"");
+        json.append(config).append("},\n  \"trials\": [\n");
+        StringJoiner rows = new StringJoiner(",\n");
+        for (Map<String, Long> r : results)
+            rows.add("    " + jsonObject(r));
+        json.append(rows).append("\n  ],\n  \"summary\": [\n");
+        rows = new StringJoiner(",\n");
+        for (Map<String, Double> r : summary)
+            rows.add("    " + jsonObject(r));
+        json.append(rows).append("\n  ]\n}\n");
+        Path file = outDir.resolve("report.json");
+        Files.writeString(file, json);
+        Config.consoleOutput(Config.outType.INFO, "Report written to " + file);
+    }
+
+    private static String jsonObject(Map<String, ? extends Number> values) {
+        StringJoiner fields = new StringJoiner(", ", "{", "}");
+        for (Map.Entry<String, ? extends Number> e : values.entrySet()) {
+            Number v = e.getValue();
+            String formatted = v instanceof Double d ? String.format(Locale.ROOT, "%.4f", d) : v.toString();
+            fields.add("\"" + e.getKey() + "\": " + formatted);
+        }
+        return fields.toString();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("workers", "4");
+        options.put("trials", "3");
+        options.put("words", "1000000");
+        options.put("vocab", "10000");
+        options.put("skew", "1.0");
+        options.put("seed", "42");
+        options.put("files", "1");
+        options.put("timeout", "300");
+        options.put("basePort", "20000");
+        options.put("out", "bench_results");
+        boolean valid = args.length % 2 == 0;
+        for (int i = 0; valid && i < args.length; i += 2) {
+            String key = args[i].startsWith("--") ? args[i].substring(2) : "";
+            valid = options.containsKey(key);
+            if (valid)
+                options.put(key, args[i + 1]);
+        }
+        if (!valid) {
+            System.err.println("Usage: java Benchmark [--" + String.join(" <v>] [--", options.keySet()) + " <v>]");
+            System.exit(1);
+        }
+        new Benchmark(options).run();
+    }
+}
@@ -3,6 +3,7 @@ import java.net.*;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
 public class CommunicationHandler {
@@ -12,6 +13,7 @@ public class CommunicationHandler {
     private final ExecutorService pool = Executors.newCachedThreadPool();
 
     private final Map<String, SenderThread> senders = new ConcurrentHashMap<>();
+    private final Map<Message.Type, AtomicLong> bytesByType = new ConcurrentHashMap<>();
 
     public CommunicationHandler(int port, BiConsumer<Message, String> onMessage, List<NodeInfo> peers) {
         this.port = port;
@@ -21,8 +23,10 @@ public class CommunicationHandler {
 
     public void start() {
         startServerSocket();
+        // Only the peers handed to the constructor are dialled up front,
+        // every other connection is opened on the first send() towards it
         for (NodeInfo peer : peers) {
-            connectToPeer(peer);
+            senderFor(peer);
         }
     }
 
@@ -40,8 +44,19 @@ public class CommunicationHandler {
     }
 
     private void handleIncoming(Socket client) {
+        ObjectInputStream in;
+        try {
+            in = new ObjectInputStream(client.getInputStream());
+        } catch (EOFException e) {
+            // Closed before the stream header, e.g. a readiness probe: not a client
+            Config.consoleOutput(Config.outType.DEEP, "Ignoring empty connection from " + client.getInetAddress());
+            return;
+        } catch (IOException e) {
+            Config.consoleOutput(Config.outType.ERR, "Error handling client at " + client.getInetAddress());
+            e.printStackTrace();
+            return;
+        }
         try {
-            ObjectInputStream in = new ObjectInputStream(client.getInputStream());
             while (true) {
                 Message msg = (Message) in.readObject();
                 String sender = client.getInetAddress().getHostAddress();
@@ -53,48 +68,36 @@ public class CommunicationHandler {
         }
     }
 
-    private void connectToPeer(NodeInfo peer) {
-        pool.submit(() -> {
-            String key = peer.hostname + ":" + peer.port;
-            while (true) {
-                try {
-                    Socket socket = new Socket(peer.hostname, peer.port);
-                    ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-
-                    SenderThread sender = new SenderThread(peer, out, key);
-                    senders.put(key, sender);
-                    pool.submit(sender);
-                    Config.consoleOutput(Config.outType.INFO, "Connected to " + key);
-                    return;
-                } catch (IOException e) {
-                    Config.consoleOutput(Config.outType.ERR, "Retrying connection to " + key);
-                    try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException ignored) {}
-                }
-            }
+    private SenderThread senderFor(NodeInfo peer) {
+        String key = peer.hostname + ":" + peer.port;
+        return senders.computeIfAbsent(key, k -> {
+            SenderThread sender = new SenderThread(peer, k);
+            pool.submit(sender);
+            return sender;
         });
     }
 
+    // Bytes written on the wire for messages of the given type since start, all peers included
+    public long getBytesSent(Message.Type type) {
+        AtomicLong bytes = bytesByType.get(type);
+        return bytes == null ? 0 : bytes.get();
+    }
+
     public void send(NodeInfo peer, Message msg) {
-        String key = peer.hostname + ":" + peer.port;
-        SenderThread sender = senders.get(key);
-        if (sender != null) {
-            sender.send(msg);
-        } else {
-            Config.consoleOutput(Config.outType.ERR, "No sender for " + key);
-        }
+        // Messages are queued even before the connection is up,
+        // the sender thread flushes them once the peer accepts
+        senderFor(peer).send(msg);
     }
 
     private class SenderThread implements Runnable {
         private final NodeInfo peer;
         private final String peerKey;
         private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong bytesSent = new AtomicLong();
         private ObjectOutputStream out;
 
-        public SenderThread(NodeInfo peer, ObjectOutputStream out, String peerKey) {
+        public SenderThread(NodeInfo peer, String peerKey) {
             this.peer = peer;
-            this.out = out;
             this.peerKey = peerKey;
         }
 
@@ -102,24 +105,67 @@ public class CommunicationHandler {
             queue.offer(msg);
         }
 
-        public void run() {
+        private boolean connect() {
             while (true) {
                 try {
-                    Message msg = queue.take();
-                    synchronized (out) {
-                        out.writeObject(msg);
-                        out.flush();
+                    Socket socket = new Socket(peer.hostname, peer.port);
+                    out = new ObjectOutputStream(new CountingOutputStream(socket.getOutputStream(), bytesSent));
+                    Config.consoleOutput(Config.outType.INFO, "Connected to " + peerKey);
+                    return true;
+                } catch (IOException e) {
+                    Config.consoleOutput(Config.outType.ERR, "Retrying connection to " + peerKey);
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException ignored) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        public void run() {
+            while (connect()) {
+                try {
+                    while (true) {
+                        Message msg = queue.take();
+                        long before = bytesSent.get();
+                        synchronized (out) {
+                            out.writeObject(msg);
+                            out.flush();
+                        }
+                        bytesByType.computeIfAbsent(msg.type, t -> new AtomicLong())
+                                .addAndGet(bytesSent.get() - before);
+                        Config.consoleOutput(Config.outType.DEEP, msg.type + " sent to " + peerKey);
                     }
-                    Config.consoleOutput(Config.outType.DEEP, msg.type + " sent to " + peerKey);
-                } catch (IOException | InterruptedException e) {
+                } catch (IOException e) {
                     Config.consoleOutput(Config.outType.ERR, "Connection lost to " + peerKey);
                     e.printStackTrace();
-                    break;
+                    // Retry connection
+                } catch (InterruptedException e) {
+                    return;
                 }
             }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong counter;
+
+        public CountingOutputStream(OutputStream out, AtomicLong counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.incrementAndGet();
+        }
 
-            // Retry connection
-            connectToPeer(peer);
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.addAndGet(len);
         }
     }
 }
\ No newline at end of file
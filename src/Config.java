@@ -1,8 +1,9 @@
+import java.util.ArrayList;
 import java.util.List;
 
 public class Config {
     //public static final NodeInfo MASTER = new NodeInfo(-1, "137.194.125.65", 12345);
-    public static final NodeInfo MASTER = new NodeInfo(-1, "localhost", 12345);
+    public static final NodeInfo MASTER = new NodeInfo(-1, "localhost", Integer.getInteger("mr.masterPort", 12345));
     public enum outType {
         DEEP,
         DEBUG,
@@ -14,10 +15,18 @@ public class Config {
     public static final String finalResultOutput = "KEEP_LOCAL";
     // Tell the slave to send result explicitly or keep result locally
     // use "EXPLICIT" or "KEEP_LOCAL" as control string
+    public static final int AGGREGATION_FAN_OUT = 4;
+    // Workers report phase completion up a k-ary tree rooted at worker 0,
+    // only the root talks to the master. Use 0 to report directly to the master
 
     // Specify the workers' info here and ONLY HERE
     // Comment out those not needed
+    // -Dmr.workers=<n> (and optionally -Dmr.basePort=<port>) overrides the list
+    // with n generated localhost workers, this is what the Benchmark uses
     public static List<NodeInfo> loadWorkers() {
+        String generated = System.getProperty("mr.workers");
+        if (generated != null)
+            return localWorkers(Integer.parseInt(generated), Integer.getInteger("mr.basePort", 10001));
         return List.of(
                 new NodeInfo(0, "localhost", 10001)
                 //,new NodeInfo(1, "tp-1d22-02", 10002)
@@ -33,6 +42,13 @@ public class Config {
         );
     }
 
+    public static List<NodeInfo> localWorkers(int count, int basePort) {
+        List<NodeInfo> workers = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            workers.add(new NodeInfo(i, "localhost", basePort + i));
+        return workers;
+    }
+
     public static void consoleOutput(outType type, String msg){
         switch (type){
             case DEEP:
@@ -0,0 +1,70 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class CorpusGenerator {
+    // Writes a reproducible text of Zipf-distributed words:
+    // the k-th most frequent word has a weight of 1 / k^skew (skew 0 is uniform)
+    private static final int WORDS_PER_LINE = 16;
+
+    private final int vocabulary;
+    private final double[] cumulative;
+    private final Random random;
+
+    public CorpusGenerator(int vocabulary, double skew, long seed) {
+        this.vocabulary = vocabulary;
+        this.cumulative = new double[vocabulary];
+        this.random = new Random(seed);
+        double sum = 0;
+        for (int k = 0; k < vocabulary; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < vocabulary; k++)
+            cumulative[k] /= sum;
+    }
+
+    public String nextWord() {
+        int k = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (k < 0)
+            k = -k - 1;
+        return wordOf(Math.min(k, vocabulary - 1));
+    }
+
+    // Letters only, so that the workers' cleaning leaves the words untouched
+    public static String wordOf(int rank) {
+        StringBuilder word = new StringBuilder();
+        int n = rank;
+        do {
+            word.append((char) ('a' + n % 26));
+            n = n / 26 - 1;
+        } while (n >= 0);
+        return word.reverse().toString();
+    }
+
+    public void write(Path target, long words) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target)) {
+            for (long i = 0; i < words; i++) {
+                writer.write(nextWord());
+                writer.write((i + 1) % WORDS_PER_LINE == 0 ? "\n" : " ");
+            }
+            writer.newLine();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 5) {
+            System.err.println("Usage: java CorpusGenerator <output> <words> [vocabulary=10000] [skew=1.0] [seed=42]");
+            System.exit(1);
+        }
+        long words = Long.parseLong(args[1]);
+        int vocabulary = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        new CorpusGenerator(vocabulary, skew, seed).write(Path.of(args[0]), words);
+        Config.consoleOutput(Config.outType.INFO, "Corpus of " + words + " words written to " + args[0]);
+    }
+}
@@ -2,6 +2,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -16,6 +17,9 @@ public class MasterNode {
     private CountDownLatch taskLatch;
     private final Object lock = new Object(); // for printing/debug sync
     private final long startTime;
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>(); // ms per phase, in order
+    private long phaseStart;
+    private long shuffledBytes;
 
     public MasterNode(String[] files) {
         this.files = files;
@@ -26,6 +30,7 @@ public class MasterNode {
         this.localMins = Collections.synchronizedList(new ArrayList<>());
         this.localMaxs = Collections.synchronizedList(new ArrayList<>());
         this.startTime = System.currentTimeMillis();
+        this.phaseStart = startTime;
 
     }
 
@@ -34,12 +39,15 @@ public class MasterNode {
         Config.consoleOutput(Config.outType.INFO, "Master started.");
         assignFilesToWorkers("NEW");
         waitForTaskCompletion();
+        endPhase("map");
         Config.consoleOutput(Config.outType.INFO, "All tasks completed. Initiating reduction...");
         startReduce();
         waitForMinMaxReports();
+        endPhase("reduce");
         Config.consoleOutput(Config.outType.INFO, "All min/max received. Initiating redistribution...");
         redistributeByCounts();
         waitForRedistributionDone();
+        endPhase("redistribution");
         Config.consoleOutput(Config.outType.INFO, "All redistribution done. Requesting for final results...");
         requestFinalResults();
         gatherFinalResults();
@@ -75,6 +83,8 @@ public class MasterNode {
                 commHandler.send(worker, new Message(Message.Type.TASK_ASSIGNMENT, task, -1));
             }
         }
+        // Workers report TASK_DONE once for all their tasks, aggregated up the tree
+        broadcast(new Message(Message.Type.ALL_TASKS_ASSIGNED, String.valueOf(files.length), -1));
     }
 
     private void startReduce(){
@@ -84,40 +94,57 @@ public class MasterNode {
 
     private void handleMessage(Message msg, String senderHost) {
         switch (msg.type) {
+            // Reports may carry the aggregate of a whole subtree of workers (see TreeAggregator)
             case TASK_DONE -> {
+                int tasks = Integer.parseInt(msg.payload);
                 synchronized (lock) {
-                    taskLatch.countDown();
-                    Config.consoleOutput(Config.outType.DEBUG, "One task marked done. Remaining: " + taskLatch.getCount());
+                    countDown(tasks);
+                    Config.consoleOutput(Config.outType.DEBUG, tasks + " tasks marked done. Remaining: " + taskLatch.getCount());
                 }
             }
             case LOCAL_MIN_MAX -> {
-                synchronized (lock) {
-                    taskLatch.countDown();
-                    Config.consoleOutput(Config.outType.DEBUG, "Received min/max from worker " + msg.senderId);
-                }
                 String[] parts = msg.payload.split(",");
                 localMins.add(Integer.parseInt(parts[0]));
                 localMaxs.add(Integer.parseInt(parts[1]));
                 minMaxReports.add(String.valueOf(msg.senderId));
+                synchronized (lock) {
+                    countDown(Integer.parseInt(parts[2]));
+                    Config.consoleOutput(Config.outType.DEBUG, "Received min/max of " + parts[2] + " workers from worker " + msg.senderId);
+                }
             }
             case REDISTRIBUTION_DONE -> {
+                String[] parts = msg.payload.split(",");
                 synchronized (lock) {
-                    taskLatch.countDown();
-                    Config.consoleOutput(Config.outType.DEBUG, "Redistribution done from worker " + msg.senderId);
+                    shuffledBytes += Long.parseLong(parts[1]);
+                    countDown(Integer.parseInt(parts[0]));
+                    Config.consoleOutput(Config.outType.DEBUG, "Redistribution done from " + parts[0] + " workers via worker " + msg.senderId);
                 }
             }
             case FINAL_RESULT -> {
-                int id = Integer.parseInt(msg.payload.split(":")[0]);
+                String[] ids = msg.payload.substring(0, msg.payload.indexOf(":")).split(",");
                 String data = msg.payload.substring(msg.payload.indexOf(":") + 1);
+                for (String id : ids) {
+                    finalResults.put(Integer.parseInt(id), data);
+                }
                 synchronized (lock) {
-                    taskLatch.countDown();
-                    Config.consoleOutput(Config.outType.INFO, "Received final result from worker " + id);
+                    countDown(ids.length);
+                    Config.consoleOutput(Config.outType.INFO, "Received final result from worker(s) " + String.join(",", ids));
                 }
-                finalResults.put(id, data);
             }
         }
     }
 
+    private void endPhase(String name) {
+        long now = System.currentTimeMillis();
+        phaseTimes.put(name, now - phaseStart);
+        phaseStart = now;
+    }
+
+    private void countDown(int times) {
+        for (int i = 0; i < times; i++)
+            taskLatch.countDown();
+    }
+
     private void waitForTaskCompletion() {
         try {
             taskLatch.await(); // Waits until all tasks are marked done
@@ -191,11 +218,13 @@ public class MasterNode {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Interrupted while waiting for task completion");
         }
+        endPhase("final_result");
         List<Integer> ids = new ArrayList<>(finalResults.keySet());
         Collections.sort(ids);
         long endTime = System.currentTimeMillis();
         long durationNano = endTime - startTime;
         double durationSeconds = durationNano / 1000.0;
+        Config.consoleOutput(Config.outType.INFO, "Phase times (ms): " + phaseTimes + ", shuffled bytes: " + shuffledBytes);
         Config.consoleOutput(Config.outType.INFO, "Total running time: " + durationSeconds + "s.");
         try (BufferedWriter writer = new BufferedWriter(new FileWriter("final_result.txt"))) {
             for (int id : ids) {
@@ -207,6 +236,34 @@ public class MasterNode {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        // Last action of the master: the Benchmark kills the nodes as soon as the metrics exist
+        writeMetrics(endTime - startTime);
+    }
+
+    private void writeMetrics(long totalMillis) {
+        // Only written when asked for, e.g. by the Benchmark with -Dmr.metrics=<file>
+        String metricsFile = System.getProperty("mr.metrics");
+        if (metricsFile == null)
+            return;
+        Path target = Path.of(metricsFile);
+        Path tmp = Path.of(metricsFile + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+            writer.write("workers=" + workers.size() + "\n");
+            for (Map.Entry<String, Long> phase : phaseTimes.entrySet()) {
+                writer.write(phase.getKey() + "=" + phase.getValue() + "\n");
+            }
+            writer.write("total=" + totalMillis + "\n");
+            writer.write("shuffled_bytes=" + shuffledBytes + "\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            // Renamed once complete so that readers never see a partial file
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     private void broadcast(Message msg) {
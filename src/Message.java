@@ -3,6 +3,7 @@ import java.io.Serializable;
 public class Message implements Serializable {
     public enum Type {
         TASK_ASSIGNMENT,
+        ALL_TASKS_ASSIGNED,
         TASK_DONE,
         WORD_PAIR,
         REQ_ACK,
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public class TreeAggregator {
+    // Combines the per-phase reports of a worker and of its subtree
+    // so that the parent (or the master, for the root) receives a single message.
+    // Payload formats of the aggregated messages:
+    //   TASK_DONE           -> "<tasks done>"
+    //   LOCAL_MIN_MAX       -> "<min>,<max>,<reports>"
+    //   REDISTRIBUTION_DONE -> "<reports>,<WORD_PAIR and REDISTRIBUTION bytes sent>"
+    //   FINAL_RESULT        -> "<id>,<id>,...:<data>"
+    private final int id;
+    private final int parentId;
+    private final List<Integer> children;
+    private final BiConsumer<Integer, Message> forward;
+    private final Map<Message.Type, Integer> missing = new HashMap<>();
+    private final Map<Message.Type, String> partial = new HashMap<>();
+
+    public TreeAggregator(int id, int fanOut, int size, BiConsumer<Integer, Message> forward) {
+        this.id = id;
+        this.parentId = parentOf(id, fanOut);
+        this.children = childrenOf(id, fanOut, size);
+        this.forward = forward;
+    }
+
+    public static int parentOf(int id, int fanOut) {
+        if (fanOut <= 0 || id == 0)
+            return -1;
+        return (id - 1) / fanOut;
+    }
+
+    public static List<Integer> childrenOf(int id, int fanOut, int size) {
+        List<Integer> result = new ArrayList<>();
+        if (fanOut <= 0)
+            return result;
+        for (int c = id * fanOut + 1; c <= id * fanOut + fanOut && c < size; c++)
+            result.add(c);
+        return result;
+    }
+
+    // Own report of this worker for the given phase
+    public void contribute(Message.Type type, String payload) {
+        merge(type, payload);
+    }
+
+    // Aggregated report of one of the children's subtree
+    public void onChildReport(Message msg) {
+        Config.consoleOutput(Config.outType.DEBUG, "Worker " + id + " received " + msg.type + " from child " + msg.senderId);
+        merge(msg.type, msg.payload);
+    }
+
+    private void merge(Message.Type type, String payload) {
+        String combined;
+        synchronized (this) {
+            // A child may report a phase before this worker has started it
+            int left = missing.getOrDefault(type, children.size() + 1) - 1;
+            combined = partial.containsKey(type) ? combine(type, partial.get(type), payload) : payload;
+            if (left > 0) {
+                missing.put(type, left);
+                partial.put(type, combined);
+                return;
+            }
+            // Each phase happens once per run, reset for cleanliness
+            missing.remove(type);
+            partial.remove(type);
+        }
+        forward.accept(parentId, new Message(type, combined, id));
+    }
+
+    public static String combine(Message.Type type, String a, String b) {
+        switch (type) {
+            case TASK_DONE -> {
+                return String.valueOf(Integer.parseInt(a) + Integer.parseInt(b));
+            }
+            case REDISTRIBUTION_DONE -> {
+                String[] pa = a.split(",");
+                String[] pb = b.split(",");
+                int reports = Integer.parseInt(pa[0]) + Integer.parseInt(pb[0]);
+                long bytes = Long.parseLong(pa[1]) + Long.parseLong(pb[1]);
+                return reports + "," + bytes;
+            }
+            case LOCAL_MIN_MAX -> {
+                String[] pa = a.split(",");
+                String[] pb = b.split(",");
+                int min = Math.min(Integer.parseInt(pa[0]), Integer.parseInt(pb[0]));
+                int max = Math.max(Integer.parseInt(pa[1]), Integer.parseInt(pb[1]));
+                int reports = Integer.parseInt(pa[2]) + Integer.parseInt(pb[2]);
+                return min + "," + max + "," + reports;
+            }
+            case FINAL_RESULT -> {
+                // Only small acknowledgements are aggregated, the data part is shared
+                String idsA = a.substring(0, a.indexOf(":"));
+                String idsB = b.substring(0, b.indexOf(":"));
+                return idsA + "," + idsB + a.substring(a.indexOf(":"));
+            }
+            default -> throw new IllegalArgumentException("Cannot aggregate " + type);
+        }
+    }
+}
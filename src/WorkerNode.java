@@ -6,9 +6,11 @@ public class WorkerNode {
     private final NodeInfo masterNode;
     private final List<NodeInfo> peers;
     private final CommunicationHandler commHandler;
+    private final TreeAggregator aggregator;
     private final Map<String, Integer> localCounts = new ConcurrentHashMap<>();
     private final List<WordPair> receivedPairs = Collections.synchronizedList(new ArrayList<>());
     private final List<WordPair> redistributedPairs = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Integer> touchedPeers = ConcurrentHashMap.newKeySet();
     private CountDownLatch ACK_Latch;
     private final Object lock = new Object();
 
@@ -16,9 +18,9 @@ public class WorkerNode {
         this.id = id;
         this.masterNode = Config.MASTER;
         this.peers = Config.loadWorkers();
-        List<NodeInfo> allOtherNodes = new ArrayList<>(peers);
-        allOtherNodes.add(masterNode);
-        this.commHandler = new CommunicationHandler(peers.get(id).port, this::handleMessage, allOtherNodes);
+        // Peers are connected lazily, only when data or a report is sent to them
+        this.commHandler = new CommunicationHandler(peers.get(id).port, this::handleMessage, List.of(masterNode));
+        this.aggregator = new TreeAggregator(id, Config.AGGREGATION_FAN_OUT, peers.size(), this::sendToParent);
     }
 
     public void start() {
@@ -29,6 +31,8 @@ public class WorkerNode {
     private void handleMessage(Message msg, String senderHost) {
         switch (msg.type) {
             case TASK_ASSIGNMENT -> handleTask(msg.payload);
+            case ALL_TASKS_ASSIGNED -> finishTasks(msg.payload);
+            case TASK_DONE, LOCAL_MIN_MAX, REDISTRIBUTION_DONE, FINAL_RESULT -> aggregator.onChildReport(msg);
             case WORD_PAIR, REDISTRIBUTION -> onReceivingPair(msg);
             case REQ_ACK -> replyACK(msg);
             case ACK -> rcvACK();
@@ -54,18 +58,31 @@ public class WorkerNode {
                 }
             }
         }
+    }
+
+    private void finishTasks(String taskCount) {
+        // Tasks are handled in order on the master's connection,
+        // so every assigned task has been processed at this point
         askAndWait4ACK();
-        commHandler.send(masterNode, new Message(Message.Type.TASK_DONE, String.valueOf(id), id));
+        aggregator.contribute(Message.Type.TASK_DONE, taskCount);
+    }
+
+    private void sendToParent(int parentId, Message msg) {
+        if (parentId < 0)
+            commHandler.send(masterNode, msg);
+        else
+            commHandler.send(peers.get(parentId), msg);
     }
 
     private void askAndWait4ACK(){
-        for(NodeInfo peer : peers) {
-            if(peer.id != this.id) {
-                commHandler.send(peer, new Message(Message.Type.REQ_ACK, "", id));
-                Config.consoleOutput(Config.outType.DEBUG, "Worker " + id + " has requested " + peer.id +" to ACK.");
-            }
+        // Only the peers which received data since the last barrier need to confirm it
+        List<Integer> targets = new ArrayList<>(touchedPeers);
+        touchedPeers.removeAll(targets);
+        ACK_Latch = new CountDownLatch(targets.size());
+        for(int peerId : targets) {
+            commHandler.send(peers.get(peerId), new Message(Message.Type.REQ_ACK, "", id));
+            Config.consoleOutput(Config.outType.DEBUG, "Worker " + id + " has requested " + peerId +" to ACK.");
         }
-        ACK_Latch = new CountDownLatch(peers.size()-1);
         Config.consoleOutput(Config.outType.INFO, "Worker " + id + " is waiting for peers ACKs.");
         try {
             ACK_Latch.await(); // Waits until all tasks are marked done
@@ -89,6 +106,7 @@ public class WorkerNode {
 
     private void sendToPeer(int peerId, WordPair wp) {
         Message m = new Message(Message.Type.WORD_PAIR, wp.word + ":" + wp.count, id);
+        touchedPeers.add(peerId);
         commHandler.send(peers.get(peerId), m);
     }
 
@@ -122,8 +140,7 @@ public class WorkerNode {
         }
         int localMin = localCounts.values().stream().min(Integer::compare).orElse(0);
         int localMax = localCounts.values().stream().max(Integer::compare).orElse(0);
-        commHandler.send(masterNode,
-                new Message(Message.Type.LOCAL_MIN_MAX, localMin + "," + localMax, id));
+        aggregator.contribute(Message.Type.LOCAL_MIN_MAX, localMin + "," + localMax + ",1");
     }
 
     private void redistribute(String payload) {
@@ -131,7 +148,8 @@ public class WorkerNode {
         String[] split = payload.split(",");
         List<Integer> thresholds = new ArrayList<>();
         for (String s : split)
-            thresholds.add(Integer.parseInt(s));
+            if (!s.isEmpty()) // a single worker gets no threshold at all
+                thresholds.add(Integer.parseInt(s));
 
         for (Map.Entry<String, Integer> entry : localCounts.entrySet()) {
             String word = entry.getKey();
@@ -140,12 +158,23 @@ public class WorkerNode {
             while (destWorker < thresholds.size() && count > thresholds.get(destWorker)) {
                 destWorker++;
             }
+            if (destWorker == this.id) {
+                synchronized (lock){
+                    redistributedPairs.add(new WordPair(word, count));
+                }
+                continue;
+            }
             Message m = new Message(Message.Type.REDISTRIBUTION,
                     word + ":" + count, id);
+            touchedPeers.add(destWorker);
             commHandler.send(peers.get(destWorker), m);
         }
         askAndWait4ACK();
-        commHandler.send(masterNode, new Message(Message.Type.REDISTRIBUTION_DONE, "", id));
+        // Both shuffles are over and acknowledged, so every pair has been written out.
+        // Only the data is counted, control messages (reports, ACKs) are left out
+        long shuffledBytes = commHandler.getBytesSent(Message.Type.WORD_PAIR)
+                + commHandler.getBytesSent(Message.Type.REDISTRIBUTION);
+        aggregator.contribute(Message.Type.REDISTRIBUTION_DONE, "1," + shuffledBytes);
     }
 
     private void sendFinalResult(String ctrl) {
@@ -173,8 +202,8 @@ public class WorkerNode {
                     new Message(Message.Type.FINAL_RESULT, id + ":" + result.toString(), id));
         }
         else if (Objects.equals(ctrl, "KEEP_LOCAL")){
-            commHandler.send(masterNode,
-                    new Message(Message.Type.FINAL_RESULT, id + ": result saved locally", id));
+            // Small acknowledgement, gathered up the tree like the other reports
+            aggregator.contribute(Message.Type.FINAL_RESULT, id + ": result saved locally");
         }
         Config.consoleOutput(Config.outType.INFO, "Worker " + id + " sent final result.");
 